@@ -0,0 +1,132 @@
+package org.example;
+
+import org.example.common.Result;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * The position of the last committed record of a file being read: the byte offset
+ * just after its closing tag, the number of records committed so far, a checksum of
+ * the bytes preceding the offset, and the prolog of the document, i.e. its document
+ * type declaration and the start tag of its root, needed to parse the rest of the
+ * file.
+ */
+public class Checkpoint {
+
+    private static final int CHECKSUM_WINDOW = 4096;
+
+    public final long offset;
+    public final long records;
+    public final long checksum;
+    public final String prolog;
+
+    private Checkpoint(long offset, long records, long checksum, String prolog) {
+        this.offset = offset;
+        this.records = records;
+        this.checksum = checksum;
+        this.prolog = prolog;
+    }
+
+    public static Checkpoint apply(long offset, long records, long checksum, String prolog) {
+        return new Checkpoint(offset, records, checksum, prolog);
+    }
+
+    /**
+     * The checkpoint of a file of which nothing has been committed yet.
+     */
+    public static Checkpoint start() {
+        return new Checkpoint(0, 0, 0, "");
+    }
+
+    public boolean isStart() {
+        return offset == 0;
+    }
+
+    /**
+     * Returns the start checkpoint if there is no checkpoint file.
+     */
+    public static Result<Checkpoint> load(String path) {
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            final Properties properties = new Properties();
+            properties.load(reader);
+            return Result.success(new Checkpoint(
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("records")),
+                    Long.parseLong(properties.getProperty("checksum")),
+                    Objects.requireNonNull(properties.getProperty("prolog"))));
+        } catch (NoSuchFileException e) {
+            return Result.success(start());
+        } catch (Exception e) {
+            return Result.failure(String.format("Incorrect checkpoint file %s", path), e);
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file first, then moves it over the
+     * previous one, so that a crash never leaves a partial checkpoint behind.
+     */
+    public Result<Checkpoint> save(String path) {
+        final Path target = Paths.get(path);
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        final Properties properties = new Properties();
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("records", Long.toString(records));
+        properties.setProperty("checksum", Long.toString(checksum));
+        properties.setProperty("prolog", prolog);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Result.success(this);
+        } catch (IOException e) {
+            return Result.failure(String.format("IO error while writing the checkpoint %s", path), e);
+        }
+    }
+
+    public static Result<Boolean> delete(String path) {
+        try {
+            return Result.success(Files.deleteIfExists(Paths.get(path)));
+        } catch (IOException e) {
+            return Result.failure(String.format("IO error while deleting the checkpoint %s", path), e);
+        }
+    }
+
+    /**
+     * The CRC32 of the bytes preceding the offset, up to CHECKSUM_WINDOW of them.
+     */
+    static Result<Long> checksum(FileChannel channel, long offset) {
+        try {
+            final long start = Math.max(0, offset - CHECKSUM_WINDOW);
+            final ByteBuffer buffer = ByteBuffer.allocate((int) (offset - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    return Result.failure(String.format("Offset %s is past the end of the file", offset));
+                }
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(buffer.flip());
+            return Result.success(crc.getValue());
+        } catch (IOException e) {
+            return Result.failure("IO error while computing the checksum", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Checkpoint(offset=%s, records=%s)", offset, records);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example;
 
 import org.example.common.Result;
+import org.jdom2.Verifier;
 
 public class ElementName {
 
@@ -11,10 +12,10 @@ public class ElementName {
     }
 
     public static ElementName apply(String value) {
-        return new ElementName(Result.of(ElementName::isValidName, value, "Incorrect element name: " + value));
+        return new ElementName(Result.of(ElementName::isValidName, value, "Incorrect element name: %s"));
     }
 
-    private static boolean isValidName(String path) {
-        return true;
+    private static boolean isValidName(String name) {
+        return name != null && Verifier.checkElementName(name) == null;
     }
 }
\ No newline at end of file
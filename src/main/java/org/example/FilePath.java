@@ -2,6 +2,9 @@ package org.example;
 
 import org.example.common.Result;
 
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+
 public class FilePath {
 
     public final Result<String> value;
@@ -11,11 +14,14 @@ public class FilePath {
     }
 
     public static FilePath apply(String value) {
-        return new FilePath(Result.of(FilePath::isValidPath, value,
-                "Incorrect file path: " + value));
+        return new FilePath(Result.of(FilePath::isValidPath, value, "Incorrect file path: %s"));
     }
 
     private static boolean isValidPath(String path) {
-        return true;
+        try {
+            return path != null && !path.isEmpty() && Paths.get(path) != null;
+        } catch (InvalidPathException e) {
+            return false;
+        }
     }
 }
\ No newline at end of file
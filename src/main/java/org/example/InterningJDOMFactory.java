@@ -0,0 +1,37 @@
+package org.example;
+
+import org.example.common.StringPool;
+import org.jdom2.Attribute;
+import org.jdom2.AttributeType;
+import org.jdom2.DefaultJDOMFactory;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.Text;
+
+/**
+ * A JDOM factory that replaces element names, text values and attribute values
+ * by their canonical copy from a StringPool as they are built by the parser.
+ */
+public class InterningJDOMFactory extends DefaultJDOMFactory {
+
+    private final StringPool pool;
+
+    public InterningJDOMFactory(StringPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Element element(int line, int col, String name, Namespace namespace) {
+        return super.element(line, col, pool.intern(name), namespace);
+    }
+
+    @Override
+    public Text text(int line, int col, String text) {
+        return super.text(line, col, pool.intern(text));
+    }
+
+    @Override
+    public Attribute attribute(String name, String value, AttributeType type, Namespace namespace) {
+        return super.attribute(pool.intern(name), pool.intern(value), type, namespace);
+    }
+}
@@ -0,0 +1,323 @@
+package org.example;
+
+import org.example.common.Result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Decodes a UTF-8 stream starting at a known byte position, optionally preceded by
+ * a prefix, and records the exact byte offset following each child of the
+ * document root, among which are the records. The markup is scanned as the
+ * chars are delivered, so the offsets are found without any help from the parser,
+ * whose character offsets are not reliable. The prolog, i.e. the document type
+ * declaration and the start tag of the root, is kept, so that reading may resume
+ * at a record by prefixing the stream with it.
+ */
+class OffsetReader extends Reader {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private enum State {
+        TEXT, MARKUP, START_TAG, ATTRIBUTE_VALUE, END_TAG, DECLARATION, COMMENT, CDATA, INSTRUCTION
+    }
+
+    private final InputStream in;
+    private final String prefix;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final ByteBuffer bytes = ByteBuffer.allocate(2 * CHUNK_SIZE).flip();
+    private final Deque<Long> childEnds = new ArrayDeque<>();
+    private long firstChild = 1;
+
+    private long bytePosition;
+    private int prefixPosition;
+    private boolean endOfInput;
+    private boolean flushed;
+
+    private State state = State.TEXT;
+    private final StringBuilder declaration = new StringBuilder();
+    private final StringBuilder prolog = new StringBuilder();
+    private int markupStart;
+    private boolean inProlog;
+    private boolean internalSubset;
+    private boolean subsetComment;
+    private boolean subsetInstruction;
+    private char literal;
+    private char quote;
+    private char previous;
+    private char beforePrevious;
+    private int depth;
+
+    OffsetReader(InputStream in, long byteOffset, String prefix) {
+        this.in = in;
+        this.bytePosition = byteOffset;
+        this.prefix = prefix;
+    }
+
+    /**
+     * The byte offset following the given child of the root, counting from 1 in
+     * document order. The offsets of the preceding children are dropped, so the
+     * children must be claimed in increasing order.
+     */
+    Result<Long> childEnd(long child) {
+        while (firstChild < child && !childEnds.isEmpty()) {
+            childEnds.poll();
+            firstChild++;
+        }
+        return firstChild == child && !childEnds.isEmpty()
+                ? Result.success(childEnds.peek())
+                : Result.failure(String.format("No end found for child %s of the root", child));
+    }
+
+    /**
+     * The prolog read so far, complete once the first record has been read.
+     */
+    String prolog() {
+        return prolog.toString();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (prefixPosition < prefix.length()) {
+            final int n = Math.min(len, prefix.length() - prefixPosition);
+            prefix.getChars(prefixPosition, prefixPosition + n, cbuf, off);
+            prefixPosition += n;
+            scan(cbuf, off, n, bytePosition, false);
+            return n;
+        }
+        final CharBuffer out = CharBuffer.wrap(cbuf, off, Math.min(len, CHUNK_SIZE));
+        final long start = decode(out);
+        final int n = out.position() - off;
+        if (n == 0) {
+            return -1;
+        }
+        scan(cbuf, off, n, start, true);
+        return n;
+    }
+
+    /*
+     * Decodes into out from a single decoder call producing chars, and returns the
+     * byte offset of the first decoded char. The UTF-8 decoder leaves incomplete
+     * sequences in the buffer, so chars and bytes stay aligned.
+     */
+    private long decode(CharBuffer out) throws IOException {
+        final int initialPosition = out.position();
+        while (true) {
+            final long start = bytePosition;
+            final int before = bytes.position();
+            final CoderResult result = decoder.decode(bytes, out, endOfInput);
+            bytePosition += bytes.position() - before;
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (out.position() > initialPosition) {
+                return start;
+            }
+            if (endOfInput) {
+                if (!flushed) {
+                    flushed = true;
+                    decoder.flush(out);
+                }
+                return start;
+            }
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        bytes.compact();
+        final int n = in.read(bytes.array(), bytes.position(), bytes.remaining());
+        if (n < 0) {
+            endOfInput = true;
+        } else {
+            bytes.position(bytes.position() + n);
+        }
+        bytes.flip();
+        if (bytePosition == 0 && hasByteOrderMark()) {
+            bytes.position(3);
+            bytePosition = 3;
+        }
+    }
+
+    private boolean hasByteOrderMark() {
+        return bytes.remaining() >= 3
+                && bytes.get(0) == (byte) 0xEF
+                && bytes.get(1) == (byte) 0xBB
+                && bytes.get(2) == (byte) 0xBF;
+    }
+
+    /*
+     * Tracks the element depth through the chars, counting the bytes they were
+     * decoded from. The prefix chars have no bytes in the stream. In a declaration,
+     * quoted literals, and the comments and processing instructions of the internal
+     * subset, are skipped, so that a ']' or a '>' they hold does not end it.
+     */
+    private void scan(char[] chars, int off, int length, long byteOffset, boolean inStream) {
+        long position = byteOffset;
+        for (int i = off; i < off + length; i++) {
+            final char c = chars[i];
+            if (inStream) {
+                position += utf8Length(c);
+            }
+            if (inProlog) {
+                prolog.append(c);
+            }
+            switch (state) {
+                case TEXT:
+                    if (c == '<') {
+                        state = State.MARKUP;
+                        if (depth == 0) {
+                            markupStart = prolog.length();
+                            prolog.append(c);
+                            inProlog = true;
+                        }
+                    }
+                    break;
+                case MARKUP:
+                    declaration.setLength(0);
+                    internalSubset = false;
+                    subsetComment = false;
+                    subsetInstruction = false;
+                    literal = 0;
+                    state = c == '/'
+                            ? State.END_TAG
+                            : c == '!'
+                            ? State.DECLARATION
+                            : c == '?'
+                            ? State.INSTRUCTION
+                            : State.START_TAG;
+                    if (state == State.INSTRUCTION) {
+                        leaveProlog(true);
+                    }
+                    break;
+                case START_TAG:
+                    if (c == '>') {
+                        if (previous == '/') {
+                            childEnd(depth + 1, position);
+                        } else {
+                            depth++;
+                        }
+                        leaveProlog(false);
+                        state = State.TEXT;
+                    } else if (c == '"' || c == '\'') {
+                        quote = c;
+                        state = State.ATTRIBUTE_VALUE;
+                    }
+                    break;
+                case ATTRIBUTE_VALUE:
+                    if (c == quote) {
+                        state = State.START_TAG;
+                    }
+                    break;
+                case END_TAG:
+                    if (c == '>') {
+                        childEnd(depth, position);
+                        depth--;
+                        state = State.TEXT;
+                    }
+                    break;
+                case DECLARATION:
+                    if (declaration.length() < 7) {
+                        declaration.append(c);
+                    }
+                    if (declaration.length() == 2 && declaration.charAt(0) == '-' && c == '-') {
+                        state = State.COMMENT;
+                        leaveProlog(true);
+                    } else if (declaration.length() == 7 && "[CDATA[".contentEquals(declaration)) {
+                        state = State.CDATA;
+                        leaveProlog(true);
+                    } else if (literal != 0) {
+                        if (c == literal) {
+                            literal = 0;
+                        }
+                    } else if (subsetComment) {
+                        subsetComment = !(c == '>' && previous == '-' && beforePrevious == '-');
+                    } else if (subsetInstruction) {
+                        subsetInstruction = !(c == '>' && previous == '?');
+                    } else if (c == '"' || c == '\'') {
+                        literal = c;
+                    } else if (internalSubset && c == '-' && previous == '-' && beforePrevious == '!') {
+                        subsetComment = true;
+                    } else if (internalSubset && c == '?' && previous == '<') {
+                        subsetInstruction = true;
+                    } else if (c == '[') {
+                        internalSubset = true;
+                    } else if (c == ']') {
+                        internalSubset = false;
+                    } else if (c == '>' && !internalSubset) {
+                        leaveProlog(false);
+                        state = State.TEXT;
+                    }
+                    break;
+                case COMMENT:
+                    if (c == '>' && previous == '-' && beforePrevious == '-') {
+                        state = State.TEXT;
+                    }
+                    break;
+                case CDATA:
+                    if (c == '>' && previous == ']' && beforePrevious == ']') {
+                        state = State.TEXT;
+                    }
+                    break;
+                case INSTRUCTION:
+                    if (c == '>' && previous == '?') {
+                        state = State.TEXT;
+                    }
+                    break;
+            }
+            beforePrevious = previous;
+            previous = c;
+        }
+    }
+
+    /*
+     * Comments and processing instructions are dropped from the prolog. The XML
+     * declaration is one of them, and the stream is decoded as UTF-8 anyway.
+     */
+    private void leaveProlog(boolean drop) {
+        if (inProlog && drop) {
+            prolog.setLength(markupStart);
+        }
+        inProlog = false;
+    }
+
+    private void childEnd(int elementDepth, long position) {
+        if (elementDepth == 2) {
+            childEnds.add(position);
+        }
+    }
+
+    /*
+     * A supplementary char counts for four bytes on its high surrogate.
+     */
+    private static int utf8Length(char c) {
+        return c < 0x80
+                ? 1
+                : c < 0x800
+                ? 2
+                : Character.isHighSurrogate(c)
+                ? 4
+                : Character.isLowSurrogate(c)
+                ? 0
+                : 3;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -1,29 +1,330 @@
 package org.example;
 
 import org.example.common.*;
+import org.jdom2.DefaultJDOMFactory;
 import org.jdom2.Element;
 import org.jdom2.Document;
+import org.jdom2.JDOMFactory;
 import org.jdom2.JDOMException;
 import org.jdom2.input.SAXBuilder;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ReadXmlFile {
 
+    private static final Executable NOOP = () -> {};
+
+    public static <T> Executable readXmlFile(Supplier<FilePath> sPath,
+                                             Supplier<ElementName> sRootName,
+                                             Function<Element, Result<T>> f,
+                                             Effect<List<T>> e) {
+        return readXmlFile(sPath, sRootName, new DefaultJDOMFactory(), f, e);
+    }
+
+    /**
+     * Same as above, with the element names and short text values of the loaded
+     * elements shared through the given pool.
+     */
     public static <T> Executable readXmlFile(Supplier<FilePath> sPath,
                                              Supplier<ElementName> sRootName,
+                                             StringPool pool,
                                              Function<Element, Result<T>> f,
                                              Effect<List<T>> e) {
-        final Result<String> path = sPath.get().value;
-        final Result<String> rDoc = path.flatMap(ReadXmlFile::readFile2String);
-        final Result<String> rRoot = sRootName.get().value;
-        final Result<List<T>> result = rDoc.flatMap(doc -> rRoot
-                .flatMap(rootElementName -> readDocument(rootElementName, doc))
-                .flatMap(list -> List.sequence(list.map(f))));
-        return () -> result.forEachOrThrow(e);
+        return readXmlFile(sPath, sRootName, new InterningJDOMFactory(pool), f, e);
+    }
+
+    /*
+     * Nothing is read before the program is executed, and each execution reads
+     * the file again. The parsed data is only referenced during the execution,
+     * which stops at the next record when its thread is interrupted, as it is by
+     * Executable.timeout. Each record reaches f as the only child of a copy of the
+     * root holding its attributes and namespaces, not among the other records.
+     */
+    private static <T> Executable readXmlFile(Supplier<FilePath> sPath,
+                                              Supplier<ElementName> sRootName,
+                                              JDOMFactory factory,
+                                              Function<Element, Result<T>> f,
+                                              Effect<List<T>> e) {
+        return () -> read(sPath, sRootName, factory, f, () -> Thread.currentThread().isInterrupted())
+                .forEachOrThrow(e);
+    }
+
+    /**
+     * Reads the file as a stream of records: each record is built, validated
+     * against the schema and mapped before the next one is parsed, so the whole
+     * document is never held in memory and reading stops at the first invalid
+     * record.
+     */
+    public static <T> Executable readXmlFile(Supplier<FilePath> sPath,
+                                             Supplier<ElementName> sRootName,
+                                             RecordSchema schema,
+                                             Function<Element, Result<T>> f,
+                                             Effect<List<T>> e) {
+        return () -> sPath.get().value
+                .flatMap(path -> sRootName.get().value
+                        .flatMap(rootElementName -> streamRecords(path, rootElementName, schema,
+                                new DefaultJDOMFactory(), f, () -> Thread.currentThread().isInterrupted())))
+                .forEachOrThrow(e);
+    }
+
+    /**
+     * Reads the file as a stream of records and applies the effect to batches of at
+     * most batchSize records. Each time the effect returns for a batch, a checkpoint
+     * is written to the checkpoint file. If a checkpoint file is present when the
+     * program starts, reading resumes just after the last committed record. The
+     * checkpoint file is deleted once the whole file has been read. Records of a
+     * batch that was not acknowledged are read again after a restart. The file must
+     * be encoded in UTF-8, and batchSize must be at least 1.
+     */
+    public static <T> Executable readXmlFile(Supplier<FilePath> sPath,
+                                             Supplier<ElementName> sRootName,
+                                             Supplier<FilePath> sCheckpointPath,
+                                             int batchSize,
+                                             Function<Element, Result<T>> f,
+                                             Effect<List<T>> e) {
+        return () -> Result.success(batchSize)
+                .filter(n -> n > 0, String.format("Incorrect batch size %s, must be at least 1", batchSize))
+                .forEachOrThrow(n -> sPath.get().value
+                        .forEachOrThrow(path -> sRootName.get().value
+                                .forEachOrThrow(rootElementName -> sCheckpointPath.get().value
+                                        .forEachOrThrow(checkpointPath -> Checkpoint.load(checkpointPath)
+                                                .forEachOrThrow(checkpoint -> readFromCheckpoint(path,
+                                                        rootElementName, checkpointPath, checkpoint, batchSize, f, e)
+                                                        .forEachOrThrow(records -> {}))))));
+    }
+
+    /**
+     * Reads and parses the file once, then hands the elements to each consumer in
+     * turn. A failing consumer does not prevent the following ones from running;
+     * the first failure is rethrown once all of them have run, with the other ones
+     * added as suppressed.
+     */
+    public static Executable readXmlFile(Supplier<FilePath> sPath,
+                                         Supplier<ElementName> sRootName,
+                                         List<RecordConsumer<?>> consumers) {
+        return () -> read(sPath, sRootName, new DefaultJDOMFactory(), Result::success,
+                        () -> Thread.currentThread().isInterrupted())
+                .forEachOrThrow(elements -> consumers
+                        .foldLeft(NOOP, program -> consumer -> program.zip(consumer.on(elements)))
+                        .exec());
+    }
+
+    /**
+     * Same as above, with each consumer running on the given executor, in parallel
+     * with the other ones.
+     */
+    public static Executable readXmlFile(Supplier<FilePath> sPath,
+                                         Supplier<ElementName> sRootName,
+                                         List<RecordConsumer<?>> consumers,
+                                         Executor executor) {
+        return () -> read(sPath, sRootName, new DefaultJDOMFactory(), Result::success,
+                        () -> Thread.currentThread().isInterrupted())
+                .forEachOrThrow(elements -> consumers
+                        .map(consumer -> CompletableFuture.runAsync(consumer.on(elements)::exec, executor))
+                        .foldLeft(NOOP, program -> future -> program.zip(() -> join(future)))
+                        .exec());
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : e;
+        }
+    }
+
+    /**
+     * Reads, parses and maps the file on the given executor. Cancelling the returned
+     * future, or completing it by other means such as orTimeout, makes the task
+     * stop at the next record instead of parsing the rest of the file.
+     */
+    public static <T> CompletableFuture<Result<List<T>>> readXmlFileAsync(Supplier<FilePath> sPath,
+                                                                          Supplier<ElementName> sRootName,
+                                                                          Function<Element, Result<T>> f,
+                                                                          Executor executor) {
+        final CompletableFuture<Result<List<T>>> future = new CompletableFuture<>();
+        final Supplier<Boolean> cancelled = () -> future.isDone() || Thread.currentThread().isInterrupted();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(read(sPath, sRootName, new DefaultJDOMFactory(), f, cancelled));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /*
+     * The file is parsed one record at a time, and the cancelled supplier is checked
+     * before each step and after each record is parsed, so that an abandoned read
+     * stops without parsing the rest of the file.
+     */
+    private static <T> Result<List<T>> read(Supplier<FilePath> sPath,
+                                            Supplier<ElementName> sRootName,
+                                            JDOMFactory factory,
+                                            Function<Element, Result<T>> f,
+                                            Supplier<Boolean> cancelled) {
+        return checkCancelled(cancelled)
+                .flatMap(x -> sPath.get().value)
+                .flatMap(path -> sRootName.get().value
+                        .flatMap(rootElementName -> streamRecords(path, rootElementName, RecordSchema.any(),
+                                factory, f, cancelled)));
+    }
+
+    private static <T> Result<List<T>> streamRecords(String path,
+                                                     String rootElementName,
+                                                     RecordSchema schema,
+                                                     JDOMFactory factory,
+                                                     Function<Element, Result<T>> f,
+                                                     Supplier<Boolean> cancelled) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(path)))) {
+            return RecordReader.of(in, rootElementName, factory).flatMap(records -> {
+                try (records) {
+                    List<T> acc = List.list();
+                    int count = 0;
+                    for (Result<Element> rElement = records.next(); !rElement.isEmpty(); rElement = records.next()) {
+                        if (cancelled.get()) {
+                            return Result.failure("Reading cancelled");
+                        }
+                        final int record = ++count;
+                        final Result<Element> valid = schema.validate(rElement.successValue());
+                        if (valid.isEmpty()) {
+                            return Result.failure(() -> String.format("Invalid record %s in %s: %s",
+                                    record, path, valid.failureValue().getMessage()));
+                        }
+                        final Result<T> rt = f.apply(valid.successValue());
+                        if (rt.isEmpty()) {
+                            return rt.map(t -> List.list());
+                        }
+                        acc = acc.cons(rt.successValue());
+                    }
+                    final List<T> result = acc.reverse();
+                    return checkParsed(records, path).map(x -> result);
+                }
+            });
+        } catch (IOException e) {
+            return Result.failure(String.format("IO error while reading the file %s", path), e);
+        } catch (Exception e) {
+            return Result.failure(String.format("Unexpected error reading the file %s", path), e);
+        }
+    }
+
+    /*
+     * The checkpoint is written once the effect has returned, so a batch is
+     * delivered again if the process dies while it is being applied. The effect is
+     * applied outside of any Result chain, so that its exceptions reach the caller
+     * unchanged, and nothing is written when it fails.
+     */
+    private static <T> Result<Long> readFromCheckpoint(String path,
+                                                       String rootElementName,
+                                                       String checkpointPath,
+                                                       Checkpoint checkpoint,
+                                                       int batchSize,
+                                                       Function<Element, Result<T>> f,
+                                                       Effect<List<T>> e) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (!checkpoint.isStart()) {
+                final Result<Long> checksum = Checkpoint.checksum(channel, checkpoint.offset)
+                        .filter(c -> c == checkpoint.checksum,
+                                String.format("Checkpoint %s does not match the file %s", checkpointPath, path));
+                if (checksum.isEmpty()) {
+                    return checksum;
+                }
+            }
+            final OffsetReader in = new OffsetReader(Channels.newInputStream(channel.position(checkpoint.offset)),
+                    checkpoint.offset, checkpoint.prolog);
+            final Result<RecordReader> rRecords = RecordReader.of(in, rootElementName);
+            if (rRecords.isEmpty()) {
+                return rRecords.map(records -> 0L);
+            }
+            try (RecordReader records = rRecords.successValue()) {
+                Checkpoint committed = checkpoint;
+                List<T> batch = List.list();
+                int batchLength = 0;
+                for (Result<Element> rElement = records.next(); !rElement.isEmpty(); rElement = records.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return Result.failure("Reading interrupted");
+                    }
+                    final Element element = rElement.successValue();
+                    final Result<Long> end = in.childEnd(records.children());
+                    final Result<T> rt = end.flatMap(x -> f.apply(element));
+                    if (rt.isEmpty()) {
+                        return rt.map(t -> 0L);
+                    }
+                    batch = batch.cons(rt.successValue());
+                    batchLength++;
+                    if (batchLength >= batchSize) {
+                        e.apply(batch.reverse());
+                        final long offset = end.successValue();
+                        final long count = committed.records + batchLength;
+                        final String prolog = in.prolog();
+                        final Result<Checkpoint> saved = Checkpoint.checksum(channel, offset)
+                                .flatMap(c -> Checkpoint.apply(offset, count, c, prolog).save(checkpointPath));
+                        if (saved.isEmpty()) {
+                            return saved.map(c -> 0L);
+                        }
+                        committed = saved.successValue();
+                        batch = List.list();
+                        batchLength = 0;
+                    }
+                }
+                final Result<Boolean> parsed = checkParsed(records, path);
+                if (parsed.isEmpty()) {
+                    return parsed.map(x -> 0L);
+                }
+                if (batchLength > 0) {
+                    e.apply(batch.reverse());
+                }
+                final long count = committed.records + batchLength;
+                return Checkpoint.delete(checkpointPath).map(x -> count);
+            }
+        } catch (IOException ex) {
+            return Result.failure(String.format("IO error while reading the file %s", path), ex);
+        }
+    }
+
+    private static Result<Boolean> checkParsed(RecordReader records, String path) {
+        return records.status().isEmpty()
+                ? Result.failure(String.format("Incorrect XML data in the file %s", path), records.status().failureValue())
+                : records.status();
+    }
+
+    private static Result<Boolean> checkCancelled(Supplier<Boolean> cancelled) {
+        return cancelled.get()
+                ? Result.failure("Reading cancelled")
+                : Result.success(true);
+    }
+
+    /**
+     * Same as the first overload, with the effect applied to an index of the
+     * records, such as a HashIndex, a RangeIndex or a SortedIndex. The index is
+     * built in a separate pass over the mapped records, once all of them have been
+     * loaded.
+     */
+    public static <T, I> Executable readXmlFile(Supplier<FilePath> sPath,
+                                                Supplier<ElementName> sRootName,
+                                                Function<Element, Result<T>> f,
+                                                Function<List<T>, I> index,
+                                                Effect<I> e) {
+        return readXmlFile(sPath, sRootName, f, list -> e.apply(index.apply(list)));
     }
 
     public static Result<String> readFile2String(String path) {
@@ -37,8 +338,13 @@ public class ReadXmlFile {
     }
 
     public static Result<List<Element>> readDocument(String rootElementName, String stringDoc) {
+        return readDocument(rootElementName, stringDoc, new DefaultJDOMFactory());
+    }
+
+    public static Result<List<Element>> readDocument(String rootElementName, String stringDoc, JDOMFactory factory) {
 
         final SAXBuilder builder = new SAXBuilder();
+        builder.setJDOMFactory(factory);
         try {
             final Document document = builder.build(new StringReader(stringDoc));
             final Element rootElement = document.getRootElement();
@@ -0,0 +1,31 @@
+package org.example;
+
+import org.example.common.Effect;
+import org.example.common.Executable;
+import org.example.common.Function;
+import org.example.common.List;
+import org.example.common.Result;
+import org.jdom2.Element;
+
+public class RecordConsumer<T> {
+
+    private final Function<Element, Result<T>> f;
+    private final Effect<List<T>> e;
+
+    private RecordConsumer(Function<Element, Result<T>> f, Effect<List<T>> e) {
+        this.f = f;
+        this.e = e;
+    }
+
+    /*
+     * The program maps the elements and applies the effect, throwing the first
+     * mapping failure.
+     */
+    Executable on(List<Element> elements) {
+        return () -> List.traverse(elements, f).forEachOrThrow(e);
+    }
+
+    public static <T> RecordConsumer<T> of(Function<Element, Result<T>> f, Effect<List<T>> e) {
+        return new RecordConsumer<>(f, e);
+    }
+}
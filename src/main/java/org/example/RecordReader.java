@@ -0,0 +1,180 @@
+package org.example;
+
+import org.example.common.Result;
+import org.jdom2.AttributeType;
+import org.jdom2.DefaultJDOMFactory;
+import org.jdom2.Element;
+import org.jdom2.JDOMFactory;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
+import org.jdom2.input.StAXStreamBuilder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Reads the record elements, i.e. the children of the document root having a
+ * given name and no namespace, one at a time. These are the elements JDOM returns
+ * from getChildren(name) on the root, so every read selects the same records.
+ * Each record is the only child of its own copy of the root, holding the root's
+ * attributes and namespace declarations, in a document of its own, so that
+ * getParentElement() and getDocument() do not return null. The siblings of the
+ * record and the document type are not kept.
+ */
+class RecordReader implements AutoCloseable {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+    private final DepthReader reader;
+    private final String recordName;
+    private final JDOMFactory factory;
+    private final StAXStreamBuilder builder = new StAXStreamBuilder();
+    private Element root;
+    private int event = -1;
+    private Result<Boolean> status = Result.success(true);
+
+    private RecordReader(XMLStreamReader reader, String recordName, JDOMFactory factory) {
+        this.reader = new DepthReader(reader);
+        this.recordName = recordName;
+        this.factory = factory;
+        this.builder.setFactory(factory);
+    }
+
+    /*
+     * Returns an Empty at the end of the document, as well as after a parse error,
+     * which is then available from status(). StAXStreamBuilder.fragment leaves the
+     * reader on the event following the end of the record, hence the loop only
+     * advances when no record was built.
+     */
+    Result<Element> next() {
+        try {
+            if (event < 0) {
+                event = reader.next();
+            }
+            while (event != XMLStreamConstants.END_DOCUMENT) {
+                if (event == XMLStreamConstants.START_ELEMENT && reader.depth == 1) {
+                    root = root();
+                } else if (event == XMLStreamConstants.START_ELEMENT && reader.depth == 2 && isRecord()) {
+                    final Element element = (Element) builder.fragment(reader);
+                    event = reader.getEventType();
+                    final Element parent = root.clone();
+                    factory.document(parent);
+                    factory.addContent(parent, element);
+                    return Result.success(element);
+                }
+                event = reader.next();
+            }
+            return Result.empty();
+        } catch (XMLStreamException | JDOMException e) {
+            status = Result.failure("Incorrect XML data", e);
+            return Result.failure("Incorrect XML data", e);
+        }
+    }
+
+    /*
+     * The start tag of the root, without its content.
+     */
+    private Element root() {
+        final Element element = factory.element(reader.getLocalName(),
+                namespace(reader.getPrefix(), reader.getNamespaceURI()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            element.addNamespaceDeclaration(namespace(reader.getNamespacePrefix(i), reader.getNamespaceURI(i)));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            factory.setAttribute(element, factory.attribute(reader.getAttributeLocalName(i),
+                    reader.getAttributeValue(i),
+                    AttributeType.getAttributeType(reader.getAttributeType(i)),
+                    namespace(reader.getAttributePrefix(i), reader.getAttributeNamespace(i))));
+        }
+        return element;
+    }
+
+    private static Namespace namespace(String prefix, String uri) {
+        return uri == null || uri.isEmpty()
+                ? Namespace.NO_NAMESPACE
+                : Namespace.getNamespace(prefix == null ? "" : prefix, uri);
+    }
+
+    private boolean isRecord() {
+        final String namespace = reader.getNamespaceURI();
+        return reader.getLocalName().equals(recordName) && (namespace == null || namespace.isEmpty());
+    }
+
+    /**
+     * The number of children of the document root read so far, the records as well
+     * as the other elements. Once a record has been returned, it is the number of
+     * that record among the children.
+     */
+    long children() {
+        return reader.children;
+    }
+
+    /**
+     * A Success once the end of the document has been reached without error, and
+     * the parse Failure otherwise.
+     */
+    Result<Boolean> status() {
+        return status;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            /* Nothing left to release */
+        }
+    }
+
+    private static class DepthReader extends StreamReaderDelegate {
+
+        private int depth;
+        private long children;
+
+        private DepthReader(XMLStreamReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            final int event = super.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 2) {
+                    children++;
+                }
+                depth--;
+            }
+            return event;
+        }
+    }
+
+    private static XMLInputFactory xmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    static Result<RecordReader> of(InputStream in, String recordName, JDOMFactory factory) {
+        try {
+            return Result.success(new RecordReader(XML_INPUT_FACTORY.createXMLStreamReader(in), recordName, factory));
+        } catch (XMLStreamException e) {
+            return Result.failure("Incorrect XML data", e);
+        }
+    }
+
+    static Result<RecordReader> of(Reader in, String recordName) {
+        try {
+            return Result.success(new RecordReader(XML_INPUT_FACTORY.createXMLStreamReader(in), recordName,
+                    new DefaultJDOMFactory()));
+        } catch (XMLStreamException e) {
+            return Result.failure("Incorrect XML data", e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import org.example.common.Result;
+import org.jdom2.Element;
+import org.jdom2.transform.JDOMSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Validates records one at a time. Schemas are compiled when they are built, so
+ * a schema may be kept and reused across reads.
+ */
+public abstract class RecordSchema {
+
+    private static final ConcurrentMap<String, RecordSchema> xsdSchemas = new ConcurrentHashMap<>();
+
+    private static final RecordSchema ANY = new Any();
+
+    public abstract Result<Element> validate(Element element);
+
+    private RecordSchema() {
+    }
+
+    public RecordSchema and(RecordSchema schema) {
+        return new And(this, schema);
+    }
+
+    private static class Any extends RecordSchema {
+
+        @Override
+        public Result<Element> validate(Element element) {
+            return Result.success(element);
+        }
+    }
+
+    private static class And extends RecordSchema {
+
+        private final RecordSchema left;
+        private final RecordSchema right;
+
+        private And(RecordSchema left, RecordSchema right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Result<Element> validate(Element element) {
+            return left.validate(element).flatMap(right::validate);
+        }
+    }
+
+    private static class Child extends RecordSchema {
+
+        private final String name;
+        private final Pattern pattern;
+        private final boolean required;
+
+        private Child(String name, Pattern pattern, boolean required) {
+            this.name = name;
+            this.pattern = pattern;
+            this.required = required;
+        }
+
+        @Override
+        public Result<Element> validate(Element element) {
+            final String text = element.getChildTextTrim(name);
+            if (text == null) {
+                return required
+                        ? Result.failure(() -> String.format("Missing element %s in %s", name, element.getName()))
+                        : Result.success(element);
+            }
+            return pattern == null || pattern.matcher(text).matches()
+                    ? Result.success(element)
+                    : Result.failure(() -> String.format("Incorrect value '%s' for element %s, expected %s",
+                    text, name, pattern.pattern()));
+        }
+    }
+
+    private static class Xsd extends RecordSchema {
+
+        private final ThreadLocal<Validator> validator;
+
+        private Xsd(Schema schema) {
+            this.validator = ThreadLocal.withInitial(schema::newValidator);
+        }
+
+        @Override
+        public Result<Element> validate(Element element) {
+            try {
+                validator.get().validate(new JDOMSource(element));
+                return Result.success(element);
+            } catch (Exception e) {
+                validator.get().reset();
+                return Result.failure(() -> rootCause(e).getMessage(), e);
+            }
+        }
+
+        /*
+         * JDOMSource wraps the validation errors in the exceptions of its own parsing.
+         */
+        private static Throwable rootCause(Throwable t) {
+            Throwable cause = t;
+            while (cause.getCause() != null && cause.getCause() != cause) {
+                cause = cause.getCause();
+            }
+            return cause;
+        }
+    }
+
+    public static RecordSchema any() {
+        return ANY;
+    }
+
+    public static RecordSchema required(String name) {
+        return new Child(name, null, true);
+    }
+
+    public static RecordSchema required(String name, String regex) {
+        return new Child(name, Pattern.compile(regex), true);
+    }
+
+    public static RecordSchema optional(String name, String regex) {
+        return new Child(name, Pattern.compile(regex), false);
+    }
+
+    /**
+     * Compiles the XSD file, in which the record element must be declared as a
+     * global element. Successfully compiled schemas are cached by path.
+     */
+    public static Result<RecordSchema> xsd(String path) {
+        final RecordSchema cached = xsdSchemas.get(path);
+        return cached != null
+                ? Result.success(cached)
+                : compileXsd(path).map(schema -> {
+                    final RecordSchema previous = xsdSchemas.putIfAbsent(path, schema);
+                    return previous != null ? previous : schema;
+                });
+    }
+
+    private static Result<RecordSchema> compileXsd(String path) {
+        try {
+            final SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            return Result.success(new Xsd(factory.newSchema(new File(path))));
+        } catch (Exception e) {
+            return Result.failure(String.format("Incorrect XML schema %s", path), e);
+        }
+    }
+}
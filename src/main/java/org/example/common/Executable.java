@@ -1,5 +1,112 @@
 package org.example.common;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 public interface Executable {
     void exec();
+
+    default Executable andThen(Executable next) {
+        return () -> {
+            exec();
+            next.exec();
+        };
+    }
+
+    /**
+     * Executes both programs, the second one even if the first one fails. The
+     * first failure is rethrown, with the second one added as suppressed.
+     */
+    default Executable zip(Executable other) {
+        return () -> {
+            RuntimeException failure = null;
+            try {
+                exec();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            try {
+                other.exec();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        };
+    }
+
+    /**
+     * Executes the program up to maxAttempts times while it fails, waiting
+     * initialDelayMillis before the first retry and doubling the delay before each
+     * following one. The last failure is rethrown.
+     */
+    default Executable retry(int maxAttempts, long initialDelayMillis) {
+        return () -> {
+            long delay = initialDelayMillis;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    exec();
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= maxAttempts) {
+                        throw e;
+                    }
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a retry", e);
+                }
+                delay *= 2;
+            }
+        };
+    }
+
+    /**
+     * Executes the program on a new thread and waits at most timeoutMillis for it
+     * to complete. On timeout, the thread is interrupted and an
+     * IllegalStateException is thrown. Interrupting is all that can be done: a
+     * program that does not respond to interrupts keeps running after the timeout,
+     * along with the data it references, until it completes on its own.
+     */
+    default Executable timeout(long timeoutMillis) {
+        return () -> {
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            final Thread thread = new Thread(() -> {
+                try {
+                    exec();
+                } catch (RuntimeException | Error e) {
+                    failure.set(e);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            try {
+                thread.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                thread.interrupt();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the program", e);
+            }
+            if (thread.isAlive()) {
+                thread.interrupt();
+                throw new IllegalStateException(String.format("Program timed out after %s ms", timeoutMillis));
+            }
+            if (failure.get() instanceof RuntimeException) {
+                throw (RuntimeException) failure.get();
+            }
+            if (failure.get() instanceof Error) {
+                throw (Error) failure.get();
+            }
+        };
+    }
+
+    static Executable sequence(List<Executable> programs) {
+        return () -> programs.forEach(Executable::exec);
+    }
 }
@@ -0,0 +1,5 @@
+package org.example.common;
+
+public interface Function2<A, B, R> {
+    R apply(A a, B b);
+}
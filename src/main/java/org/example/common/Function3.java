@@ -0,0 +1,5 @@
+package org.example.common;
+
+public interface Function3<A, B, C, R> {
+    R apply(A a, B b, C c);
+}
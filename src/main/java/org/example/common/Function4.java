@@ -0,0 +1,5 @@
+package org.example.common;
+
+public interface Function4<A, B, C, D, R> {
+    R apply(A a, B b, C c, D d);
+}
@@ -0,0 +1,51 @@
+package org.example.common;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HashIndex<K, T> {
+
+    private final Map<K, List<T>> index;
+
+    private HashIndex(Map<K, List<T>> index) {
+        this.index = Collections.unmodifiableMap(index);
+    }
+
+    public List<T> get(K key) {
+        return index.getOrDefault(key, List.list());
+    }
+
+    public Result<T> getFirst(K key) {
+        final List<T> values = get(key);
+        return values.isEmpty()
+                ? Result.empty()
+                : Result.success(values.head());
+    }
+
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Builds the index by consing the records onto the list of their key, going
+     * through a reversed copy of the list so that records sharing a key are kept in
+     * list order. Records for which the key function returns an Empty or a Failure
+     * are not indexed.
+     */
+    public static <K, T> HashIndex<K, T> of(List<T> list, Function<T, Result<K>> key) {
+        final Map<K, List<T>> index = new HashMap<>();
+        list.reverse().forEach(t -> key.apply(t)
+                .forEach(k -> index.put(k, index.getOrDefault(k, List.list()).cons(t))));
+        return new HashIndex<>(index);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HashIndex(%s keys)", size());
+    }
+}
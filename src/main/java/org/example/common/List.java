@@ -20,10 +20,6 @@ public abstract class List<A> {
     public abstract List<A> filter(Function<A, Boolean> f);
     public abstract <B> List<B> flatMap(Function<A, List<B>> f);
     public abstract List<A> takeWhile(Function<A, Boolean> p);
-    public abstract List<List<A>> subLists();
-    public abstract List<List<A>> interleave(A a);
-    public abstract List<List<A>> perms();
-    public abstract List<Tuple<List<A>, List<A>>> split();
 
     public abstract Stream<A> toStream();
 
@@ -43,6 +39,161 @@ public abstract class List<A> {
         }
     }
 
+    public List<List<A>> subLists() {
+        return subListsStream().toList();
+    }
+
+    public List<List<A>> interleave(A a) {
+        return interleaveStream(a).toList();
+    }
+
+    public List<List<A>> perms() {
+        return permsStream().toList();
+    }
+
+    public List<Tuple<List<A>, List<A>>> split() {
+        return splitStream().toList();
+    }
+
+    /**
+     * Lazily enumerates the 2^n sublists, each one being built only when reached.
+     * The sublists are produced by counting in binary over the elements, the last
+     * element being the least significant one.
+     */
+    public Stream<List<A>> subListsStream() {
+        final Object[] elements = toArray();
+        return Stream.unfold(Result.success(new boolean[elements.length]),
+                rMask -> rMask.map(mask -> new Tuple<>(select(elements, mask), nextMask(mask))));
+    }
+
+    /**
+     * Lazily enumerates the lists obtained by inserting a at each position, from
+     * the first one to the last one.
+     */
+    public Stream<List<A>> interleaveStream(A a) {
+        final Object[] elements = toArray();
+        return Stream.unfold(0, i -> i > elements.length
+                ? Result.empty()
+                : Result.success(new Tuple<>(insert(elements, i, a), i + 1)));
+    }
+
+    /**
+     * Lazily enumerates the n! permutations in lexicographic order of the element
+     * positions.
+     */
+    public Stream<List<A>> permsStream() {
+        final Object[] elements = toArray();
+        final int[] identity = new int[elements.length];
+        for (int i = 0; i < identity.length; i++) {
+            identity[i] = i;
+        }
+        return Stream.unfold(Result.success(identity),
+                rIndexes -> rIndexes.map(indexes -> new Tuple<>(permute(elements, indexes), nextPermutation(indexes))));
+    }
+
+    /**
+     * Lazily enumerates the ways of splitting the list into two non empty parts,
+     * from the shortest prefix to the longest one. The suffixes share the
+     * structure of this list.
+     */
+    public Stream<Tuple<List<A>, List<A>>> splitStream() {
+        final Object[] elements = toArray();
+        final List<A> list = this;
+        return Stream.unfold(new Tuple<>(1, list.isEmpty() ? list : list.tail()), t -> t._1 >= elements.length
+                ? Result.empty()
+                : Result.success(new Tuple<>(new Tuple<>(prefix(elements, t._1), t._2), new Tuple<>(t._1 + 1, t._2.tail()))));
+    }
+
+    private Object[] toArray() {
+        final Object[] elements = new Object[length()];
+        List<A> workList = this;
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = workList.head();
+            workList = workList.tail();
+        }
+        return elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> select(Object[] elements, boolean[] mask) {
+        List<A> result = list();
+        for (int i = elements.length - 1; i >= 0; i--) {
+            if (mask[i]) {
+                result = result.cons((A) elements[i]);
+            }
+        }
+        return result;
+    }
+
+    private static Result<boolean[]> nextMask(boolean[] mask) {
+        final boolean[] next = mask.clone();
+        for (int i = next.length - 1; i >= 0; i--) {
+            next[i] = !next[i];
+            if (next[i]) {
+                return Result.success(next);
+            }
+        }
+        return Result.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> insert(Object[] elements, int index, A a) {
+        List<A> result = list();
+        for (int i = elements.length; i >= 0; i--) {
+            if (i == index) {
+                result = result.cons(a);
+            }
+            if (i > 0) {
+                result = result.cons((A) elements[i - 1]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> permute(Object[] elements, int[] indexes) {
+        List<A> result = list();
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            result = result.cons((A) elements[indexes[i]]);
+        }
+        return result;
+    }
+
+    private static Result<int[]> nextPermutation(int[] indexes) {
+        int i = indexes.length - 2;
+        while (i >= 0 && indexes[i] > indexes[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return Result.empty();
+        }
+        final int[] next = indexes.clone();
+        int j = next.length - 1;
+        while (next[j] < next[i]) {
+            j--;
+        }
+        swap(next, i, j);
+        for (int l = i + 1, r = next.length - 1; l < r; l++, r--) {
+            swap(next, l, r);
+        }
+        return Result.success(next);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        final int tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> prefix(Object[] elements, int n) {
+        List<A> result = list();
+        for (int i = n - 1; i >= 0; i--) {
+            result = result.cons((A) elements[i]);
+        }
+        return result;
+    }
+
     @SuppressWarnings("rawtypes")
     public static final List NIL = new Nil();
 
@@ -117,26 +268,6 @@ public abstract class List<A> {
             return this;
         }
 
-        @Override
-        public List<List<A>> subLists() {
-            return list(list());
-        }
-
-        @Override
-        public List<List<A>> interleave(A a) {
-            return list(list(a));
-        }
-
-        @Override
-        public List<List<A>> perms() {
-            return list(list());
-        }
-
-        @Override
-        public List<Tuple<List<A>, List<A>>> split() {
-            return list();
-        }
-
         @Override
         public Stream<A> toStream() {
             return Stream.empty();
@@ -168,24 +299,24 @@ public abstract class List<A> {
         }
 
         public String toString() {
-            return String.format("[%sNIL]", toString(new StringBuilder(), this).eval());
-        }
-
-        private TailCall<StringBuilder> toString(StringBuilder acc, List<A> list) {
-            return list.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> toString(acc.append(list.head()).append(", "), list.tail()));
+            final StringBuilder acc = new StringBuilder("[");
+            List<A> workList = this;
+            while (!workList.isEmpty()) {
+                acc.append(workList.head()).append(", ");
+                workList = workList.tail();
+            }
+            return acc.append("NIL]").toString();
         }
 
         @Override
         public List<A> reverse() {
-            return reverse_(list(), this).eval();
-        }
-
-        private TailCall<List<A>> reverse_(List<A> acc, List<A> list) {
-            return list.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> reverse_(new Cons<>(list.head(), acc), list.tail()));
+            List<A> acc = list();
+            List<A> workList = this;
+            while (!workList.isEmpty()) {
+                acc = new Cons<>(workList.head(), acc);
+                workList = workList.tail();
+            }
+            return acc;
         }
 
         @Override
@@ -195,13 +326,13 @@ public abstract class List<A> {
 
         @Override
         public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
-            return foldLeft(identity, this, f).eval();
-        }
-
-        private <B> TailCall<B> foldLeft(B acc, List<A> list, Function<B, Function<A, B>> f) {
-            return list.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> foldLeft(f.apply(acc).apply(list.head()), list.tail(), f));
+            B acc = identity;
+            List<A> workList = this;
+            while (!workList.isEmpty()) {
+                acc = f.apply(acc).apply(workList.head());
+                workList = workList.tail();
+            }
+            return acc;
         }
 
         @Override
@@ -211,17 +342,31 @@ public abstract class List<A> {
 
         @Override
         public <B> List<B> map(Function<A, B> f) {
-            return foldRight(list(), h -> t -> new Cons<>(f.apply(h),t));
+            List<B> acc = list();
+            List<A> workList = reverse();
+            while (!workList.isEmpty()) {
+                acc = new Cons<>(f.apply(workList.head()), acc);
+                workList = workList.tail();
+            }
+            return acc;
         }
 
         @Override
         public List<A> filter(Function<A, Boolean> f) {
-            return foldRight(list(), h -> t -> f.apply(h) ? new Cons<>(h,t) : t);
+            List<A> acc = list();
+            List<A> workList = reverse();
+            while (!workList.isEmpty()) {
+                if (f.apply(workList.head())) {
+                    acc = new Cons<>(workList.head(), acc);
+                }
+                workList = workList.tail();
+            }
+            return acc;
         }
 
         @Override
         public <B> List<B> flatMap(Function<A, List<B>> f) {
-            return foldRight(list(), h -> t -> concat(f.apply(h), t));
+            return Rope.fromList(this).flatMap(a -> Rope.fromList(f.apply(a))).toList();
         }
 
         @Override
@@ -235,46 +380,19 @@ public abstract class List<A> {
 
         @Override
         public List<A> takeWhile(Function<A, Boolean> p) {
-            return isEmpty()
-                    ? this
-                    : p.apply(head())
-                    ? new Cons<>(head(), tail().takeWhile(p))
-                    : list();
+            return takeWhile_(this, p).eval();
         }
 
-        @Override
-        public List<List<A>> subLists() {
-            List<List<A>> yss = tail.subLists();
-            return yss.concat(yss.map(subList -> subList.cons(head)));
-        }
-
-        @Override
-        public List<List<A>> interleave(A a) {
-            List<List<A>> yss = tail.interleave(a);
-            return yss.map(lst -> lst.cons(head)).cons(this.cons(a));
-        }
-
-        @Override
-        public List<List<A>> perms() {
-            return tail.perms().flatMap(lst -> lst.interleave(head));
-        }
-
-        @Override
-        public List<Tuple<List<A>, List<A>>> split() {
-            return tail.isEmpty()
-                    ? list()
-                    : split_(tail);
+        private static <A> TailCall<List<A>> takeWhile_(List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() || !p.apply(list.head())
+                    ? ret(list())
+                    : sus(() -> takeWhile_(list.tail(), p)).map(t -> new Cons<>(list.head(), t));
         }
 
         @Override
         public Stream<A> toStream() {
             return Stream.cons(() -> head, tail::toStream);
         }
-
-        private List<Tuple<List<A>, List<A>>> split_(List<A> list) {
-            List<Tuple<List<A>, List<A>>> yss = list.tail().split();
-            return yss.map(t -> new Tuple<>(t._1.cons(head), t._2)).cons(new Tuple<>(list(head), tail));
-        }
     }
 
     @SuppressWarnings("unchecked")
@@ -301,11 +419,11 @@ public abstract class List<A> {
     }
 
     public static <A, B> Result<List<B>> traverse(List<A> list, Function<A, Result<B>> f) {
-        return list.foldRight(Result.success(List.list()), x -> y -> Result.map2(f.apply(x), y, a -> b -> b.cons(a)));
+        return Result.traverse(list, f);
     }
 
     public static <A> Result<List<A>> sequence(List<Result<A>> list) {
-        return traverse(list, x -> x);
+        return Result.sequence(list);
     }
 
     public static <T> List<T> fromCollection(Collection<T> ct) {
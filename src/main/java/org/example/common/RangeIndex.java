@@ -0,0 +1,146 @@
+package org.example.common;
+
+import java.util.Arrays;
+
+/**
+ * A sorted index over double keys, kept in a primitive array. Keys that are not
+ * numbers go in a SortedIndex instead, as a record whose key function fails here
+ * is not indexed and is missed by every query.
+ */
+public class RangeIndex<T> {
+
+    private final double[] keys;
+    private final Object[] values;
+
+    private RangeIndex(double[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public List<T> get(double key) {
+        return range(key, key);
+    }
+
+    /**
+     * Returns the records whose key is between from and to (both inclusive),
+     * in ascending key order.
+     */
+    public List<T> range(double from, double to) {
+        return slice(lowerBound(from), upperBound(to));
+    }
+
+    public List<T> lessThan(double key) {
+        return slice(0, lowerBound(key));
+    }
+
+    public List<T> greaterThan(double key) {
+        return slice(upperBound(key), keys.length);
+    }
+
+    public Result<Double> min() {
+        return keys.length == 0
+                ? Result.empty()
+                : Result.success(keys[0]);
+    }
+
+    public Result<Double> max() {
+        return keys.length == 0
+                ? Result.empty()
+                : Result.success(keys[keys.length - 1]);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> slice(int from, int to) {
+        List<T> result = List.list();
+        for (int i = to - 1; i >= from; i--) {
+            result = result.cons((T) values[i]);
+        }
+        return result;
+    }
+
+    private int lowerBound(double key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Double.compare(keys[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(double key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (Double.compare(keys[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Builds the index from the list, keeping the keys in a primitive array sorted
+     * with a stable merge sort, so records sharing a key are kept in list order.
+     * Records for which the key function returns an Empty, a Failure or NaN are not
+     * indexed.
+     */
+    public static <T> RangeIndex<T> of(List<T> list, Function<T, Result<Double>> key) {
+        final double[] keys = new double[list.length()];
+        final Object[] values = new Object[list.length()];
+        final int[] size = {0};
+        list.forEach(t -> key.apply(t)
+                .filter(k -> !k.isNaN())
+                .forEach(k -> {
+                    keys[size[0]] = k;
+                    values[size[0]] = t;
+                    size[0]++;
+                }));
+        final double[] sortedKeys = Arrays.copyOf(keys, size[0]);
+        final Object[] sortedValues = Arrays.copyOf(values, size[0]);
+        mergeSort(keys, values, sortedKeys, sortedValues, 0, size[0]);
+        return new RangeIndex<>(sortedKeys, sortedValues);
+    }
+
+    /*
+     * Sorts dstKeys[from, to) along with dstValues, using srcKeys/srcValues
+     * (holding the same data on entry) as scratch space.
+     */
+    private static void mergeSort(double[] srcKeys, Object[] srcValues,
+                                  double[] dstKeys, Object[] dstValues,
+                                  int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(dstKeys, dstValues, srcKeys, srcValues, from, mid);
+        mergeSort(dstKeys, dstValues, srcKeys, srcValues, mid, to);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && Double.compare(srcKeys[i], srcKeys[j]) <= 0)) {
+                dstKeys[k] = srcKeys[i];
+                dstValues[k] = srcValues[i++];
+            } else {
+                dstKeys[k] = srcKeys[j];
+                dstValues[k] = srcValues[j++];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RangeIndex(%s keys)", size());
+    }
+}
@@ -5,6 +5,16 @@ import java.util.function.Function;
 
 public abstract class Result<T> implements Serializable {
 
+    /*
+     * Stack traces of failures are only captured when this system property is set
+     * to true. The exceptions passed as causes keep their own stack traces.
+     */
+    private static final boolean captureStackTraces =
+            Boolean.getBoolean("org.example.common.Result.stackTraces");
+
+    @SuppressWarnings("rawtypes")
+    private static final Result EMPTY = new Empty();
+
     private Result() {
     }
 
@@ -23,29 +33,73 @@ public abstract class Result<T> implements Serializable {
         return new Failure<>(failure.exception);
     }
     public static <T> Result<T> failure(String message) {
-        return new Failure<>(message);
+        return new Failure<>(new FailureException(() -> message, null));
+    }
+
+    /**
+     * The message supplier is only called if the message of the failure is read.
+     */
+    public static <T> Result<T> failure(Supplier<String> message) {
+        return new Failure<>(new FailureException(message, null));
     }
 
     public static <T> Result<T> failure(String message, Exception e) {
-        return new Failure<>(new IllegalStateException(message, e));
+        return new Failure<>(new FailureException(() -> message, e));
+    }
+
+    public static <T> Result<T> failure(Supplier<String> message, Exception e) {
+        return new Failure<>(new FailureException(message, e));
     }
 
     public static <T> Result<T> success(T value) {
         return new Success<>(value);
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> Result<T> empty() {
-        return new Empty<>();
+        return EMPTY;
     }
 
-    private static class Failure<T> extends Empty<T> {
+    private static class FailureException extends IllegalStateException {
 
-        private final RuntimeException exception;
+        private transient Supplier<String> message;
+        private String evaluatedMessage;
 
-        private Failure(String message) {
-            super();
-            this.exception = new IllegalStateException(message);
+        private FailureException(Supplier<String> message, Exception cause) {
+            super(null, cause);
+            this.message = message;
+        }
+
+        @Override
+        public synchronized String getMessage() {
+            if (message != null) {
+                evaluatedMessage = message.get();
+                message = null;
+            }
+            return evaluatedMessage;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return captureStackTraces
+                    ? super.fillInStackTrace()
+                    : this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s", IllegalStateException.class.getName(), getMessage());
+        }
+
+        private Object writeReplace() {
+            getMessage();
+            return this;
         }
+    }
+
+    private static class Failure<T> extends Empty<T> {
+
+        private final RuntimeException exception;
 
         private Failure(RuntimeException e) {
             super();
@@ -74,22 +128,27 @@ public abstract class Result<T> implements Serializable {
 
         @Override
         public Result<T> filter(Function<T, Boolean> f) {
-            return failure(this);
+            return this;
         }
 
         @Override
         public Result<T> filter(Function<T, Boolean> p, String message) {
-            return failure(this);
+            return this;
         }
 
         @Override
         public <U> Result<U> map(Function<T, U> f) {
-            return failure(this);
+            return cast();
         }
 
         @Override
         public <U> Result<U> flatMap(Function<T, Result<U>> f) {
-            return failure(exception.getMessage(), exception);
+            return cast();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <U> Result<U> cast() {
+            return (Result<U>) this;
         }
 
         @Override
@@ -99,7 +158,7 @@ public abstract class Result<T> implements Serializable {
     }
 
     private static class Empty<T> extends Result<T> {
-        public Empty() {
+        private Empty() {
             super();
         }
 
@@ -245,10 +304,10 @@ public abstract class Result<T> implements Serializable {
         try {
             return predicate.apply(value)
                     ? Result.success(value)
-                    : Result.failure(String.format(message, value));
+                    : Result.failure(() -> String.format(message, value));
         } catch (Exception e) {
-            String errMessage = String.format("Exception while getting predicate: %s", String.format(message, value));
-            return Result.failure(errMessage, e);
+            return Result.failure(() -> String.format("Exception while getting predicate: %s",
+                    String.format(message, value)), e);
         }
     }
 
@@ -267,4 +326,99 @@ public abstract class Result<T> implements Serializable {
                                            final Function<A, Function<B, C>> f) {
         return lift2(f).apply(a).apply(b);
     }
+
+    /*
+     * The following combinators return the first argument that is not a Success,
+     * and only call f when all of them are.
+     */
+
+    public static <A, B, C> Result<C> map2(final Result<A> a,
+                                           final Result<B> b,
+                                           final Function2<A, B, C> f) {
+        if (!(a instanceof Success)) return notSuccess(a);
+        if (!(b instanceof Success)) return notSuccess(b);
+        try {
+            return success(f.apply(a.successValue(), b.successValue()));
+        } catch (Exception e) {
+            return failure(e.getMessage(), e);
+        }
+    }
+
+    public static <A, B, C, D> Result<D> map3(final Result<A> a,
+                                              final Result<B> b,
+                                              final Result<C> c,
+                                              final Function3<A, B, C, D> f) {
+        if (!(a instanceof Success)) return notSuccess(a);
+        if (!(b instanceof Success)) return notSuccess(b);
+        if (!(c instanceof Success)) return notSuccess(c);
+        try {
+            return success(f.apply(a.successValue(), b.successValue(), c.successValue()));
+        } catch (Exception e) {
+            return failure(e.getMessage(), e);
+        }
+    }
+
+    public static <A, B, C, D, E> Result<E> map4(final Result<A> a,
+                                                 final Result<B> b,
+                                                 final Result<C> c,
+                                                 final Result<D> d,
+                                                 final Function4<A, B, C, D, E> f) {
+        if (!(a instanceof Success)) return notSuccess(a);
+        if (!(b instanceof Success)) return notSuccess(b);
+        if (!(c instanceof Success)) return notSuccess(c);
+        if (!(d instanceof Success)) return notSuccess(d);
+        try {
+            return success(f.apply(a.successValue(), b.successValue(), c.successValue(), d.successValue()));
+        } catch (Exception e) {
+            return failure(e.getMessage(), e);
+        }
+    }
+
+    public static <A, B, C, D, E, F> Result<F> map5(final Result<A> a,
+                                                    final Result<B> b,
+                                                    final Result<C> c,
+                                                    final Result<D> d,
+                                                    final Result<E> e,
+                                                    final Function5<A, B, C, D, E, F> f) {
+        if (!(a instanceof Success)) return notSuccess(a);
+        if (!(b instanceof Success)) return notSuccess(b);
+        if (!(c instanceof Success)) return notSuccess(c);
+        if (!(d instanceof Success)) return notSuccess(d);
+        if (!(e instanceof Success)) return notSuccess(e);
+        try {
+            return success(f.apply(a.successValue(), b.successValue(), c.successValue(),
+                    d.successValue(), e.successValue()));
+        } catch (Exception ex) {
+            return failure(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Applies f to the elements of the list in order and stops at the first result
+     * that is not a Success, which is returned. The successful values are
+     * accumulated in a single pass, without intermediate Results.
+     */
+    public static <A, B> Result<List<B>> traverse(final List<A> list,
+                                                  final org.example.common.Function<A, Result<B>> f) {
+        List<B> acc = List.list();
+        List<A> workList = list;
+        while (!workList.isEmpty()) {
+            final Result<B> rb = f.apply(workList.head());
+            if (!(rb instanceof Success)) {
+                return notSuccess(rb);
+            }
+            acc = acc.cons(rb.successValue());
+            workList = workList.tail();
+        }
+        return success(acc.reverse());
+    }
+
+    public static <A> Result<List<A>> sequence(final List<Result<A>> list) {
+        return traverse(list, x -> x);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, U> Result<U> notSuccess(Result<T> r) {
+        return (Result<U>) r;
+    }
 }
\ No newline at end of file
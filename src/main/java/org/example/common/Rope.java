@@ -0,0 +1,164 @@
+package org.example.common;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * A catenable sequence: a tree of List leaves, so that append and concat are O(1)
+ * and share the structure of both operands. Traversals use an explicit stack and
+ * are stack safe whatever the shape of the tree.
+ */
+public abstract class Rope<A> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Rope EMPTY = new Leaf<>(List.list());
+
+    public abstract int length();
+
+    private Rope() {}
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    public Rope<A> append(A a) {
+        return concat(new Leaf<>(List.list(a)));
+    }
+
+    public Rope<A> prepend(A a) {
+        return new Leaf<>(List.list(a)).concat(this);
+    }
+
+    public Rope<A> concat(Rope<A> rope) {
+        return rope.isEmpty()
+                ? this
+                : isEmpty()
+                ? rope
+                : new Concat<>(this, rope);
+    }
+
+    public void forEach(Consumer<A> effect) {
+        final ArrayDeque<Rope<A>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final Rope<A> rope = stack.pop();
+            if (rope instanceof Concat) {
+                stack.push(((Concat<A>) rope).right);
+                stack.push(((Concat<A>) rope).left);
+            } else {
+                ((Leaf<A>) rope).list.forEach(effect);
+            }
+        }
+    }
+
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        B acc = identity;
+        final ArrayDeque<Rope<A>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final Rope<A> rope = stack.pop();
+            if (rope instanceof Concat) {
+                stack.push(((Concat<A>) rope).right);
+                stack.push(((Concat<A>) rope).left);
+            } else {
+                acc = ((Leaf<A>) rope).list.foldLeft(acc, f);
+            }
+        }
+        return acc;
+    }
+
+    public <B> Rope<B> map(Function<A, B> f) {
+        return new Leaf<>(toList().map(f));
+    }
+
+    public Rope<A> filter(Function<A, Boolean> f) {
+        return new Leaf<>(toList().filter(f));
+    }
+
+    public <B> Rope<B> flatMap(Function<A, Rope<B>> f) {
+        return foldLeft(empty(), acc -> a -> acc.concat(f.apply(a)));
+    }
+
+    /**
+     * Builds the list from the rightmost element, so that no reversal is needed.
+     */
+    public List<A> toList() {
+        if (this instanceof Leaf) {
+            return ((Leaf<A>) this).list;
+        }
+        List<A> result = List.list();
+        final ArrayDeque<Rope<A>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final Rope<A> rope = stack.pop();
+            if (rope instanceof Concat) {
+                stack.push(((Concat<A>) rope).left);
+                stack.push(((Concat<A>) rope).right);
+            } else {
+                List<A> workList = ((Leaf<A>) rope).list.reverse();
+                while (!workList.isEmpty()) {
+                    result = result.cons(workList.head());
+                    workList = workList.tail();
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+
+    private static class Leaf<A> extends Rope<A> {
+
+        private final List<A> list;
+
+        private Leaf(List<A> list) {
+            this.list = list;
+        }
+
+        @Override
+        public int length() {
+            return list.length();
+        }
+    }
+
+    private static class Concat<A> extends Rope<A> {
+
+        private final Rope<A> left;
+        private final Rope<A> right;
+        private final int length;
+
+        private Concat(Rope<A> left, Rope<A> right) {
+            this.left = left;
+            this.right = right;
+            this.length = left.length() + right.length();
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Rope<A> empty() {
+        return EMPTY;
+    }
+
+    public static <A> Rope<A> fromList(List<A> list) {
+        return list.isEmpty()
+                ? empty()
+                : new Leaf<>(list);
+    }
+
+    @SafeVarargs
+    public static <A> Rope<A> rope(A... a) {
+        List<A> list = List.list();
+        for (int i = a.length - 1; i >= 0; i--) {
+            list = list.cons(a[i]);
+        }
+        return fromList(list);
+    }
+}
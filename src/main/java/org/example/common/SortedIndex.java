@@ -0,0 +1,150 @@
+package org.example.common;
+
+import java.util.Arrays;
+
+/**
+ * Same as RangeIndex, for keys that are not numbers, such as the ZONE values
+ * "Annual" or "3 - 5", or the BOTANICAL names, compared by their natural order.
+ */
+public class SortedIndex<K extends Comparable<? super K>, T> {
+
+    private final Object[] keys;
+    private final Object[] values;
+
+    private SortedIndex(Object[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public List<T> get(K key) {
+        return range(key, key);
+    }
+
+    /**
+     * Returns the records whose key is between from and to (both inclusive),
+     * in ascending key order.
+     */
+    public List<T> range(K from, K to) {
+        return slice(lowerBound(from), upperBound(to));
+    }
+
+    public List<T> lessThan(K key) {
+        return slice(0, lowerBound(key));
+    }
+
+    public List<T> greaterThan(K key) {
+        return slice(upperBound(key), keys.length);
+    }
+
+    public Result<K> min() {
+        return keys.length == 0
+                ? Result.empty()
+                : Result.success(key(0));
+    }
+
+    public Result<K> max() {
+        return keys.length == 0
+                ? Result.empty()
+                : Result.success(key(keys.length - 1));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int i) {
+        return (K) keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> slice(int from, int to) {
+        List<T> result = List.list();
+        for (int i = to - 1; i >= from; i--) {
+            result = result.cons((T) values[i]);
+        }
+        return result;
+    }
+
+    private int lowerBound(K key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (key(mid).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(K key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (key(mid).compareTo(key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Builds the index from the list, sorting the keys with a stable merge sort,
+     * so records sharing a key are kept in list order. Records for which the key
+     * function returns an Empty or a Failure are not indexed.
+     */
+    public static <K extends Comparable<? super K>, T> SortedIndex<K, T> of(List<T> list,
+                                                                           Function<T, Result<K>> key) {
+        final Object[] keys = new Object[list.length()];
+        final Object[] values = new Object[list.length()];
+        final int[] size = {0};
+        list.forEach(t -> key.apply(t)
+                .forEach(k -> {
+                    keys[size[0]] = k;
+                    values[size[0]] = t;
+                    size[0]++;
+                }));
+        final Object[] sortedKeys = Arrays.copyOf(keys, size[0]);
+        final Object[] sortedValues = Arrays.copyOf(values, size[0]);
+        SortedIndex.<K>mergeSort(keys, values, sortedKeys, sortedValues, 0, size[0]);
+        return new SortedIndex<>(sortedKeys, sortedValues);
+    }
+
+    /*
+     * Sorts dstKeys[from, to) along with dstValues, using srcKeys/srcValues
+     * (holding the same data on entry) as scratch space.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<? super K>> void mergeSort(Object[] srcKeys, Object[] srcValues,
+                                                                    Object[] dstKeys, Object[] dstValues,
+                                                                    int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        SortedIndex.<K>mergeSort(dstKeys, dstValues, srcKeys, srcValues, from, mid);
+        SortedIndex.<K>mergeSort(dstKeys, dstValues, srcKeys, srcValues, mid, to);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && ((K) srcKeys[i]).compareTo((K) srcKeys[j]) <= 0)) {
+                dstKeys[k] = srcKeys[i];
+                dstValues[k] = srcValues[i++];
+            } else {
+                dstKeys[k] = srcKeys[j];
+                dstValues[k] = srcValues[j++];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SortedIndex(%s keys)", size());
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.common;
 
+import java.util.function.Consumer;
+
 public abstract class Stream<A> {
 
     private static Stream EMPTY = new Empty();
@@ -10,9 +12,58 @@ public abstract class Stream<A> {
 
     public abstract Stream<A> take(int n);
 
+    public abstract boolean isEmpty();
 
     private Stream() {}
 
+    public <B> Stream<B> map(Function<A, B> f) {
+        if (isEmpty()) {
+            return empty();
+        }
+        final Stream<A> stream = this;
+        return cons(() -> f.apply(stream.head()._1), () -> stream.tail().map(f));
+    }
+
+    /**
+     * Skips the leading elements that do not match in a loop, so that long runs
+     * of rejected elements do not grow the stack.
+     */
+    public Stream<A> filter(Function<A, Boolean> p) {
+        Stream<A> workStream = this;
+        while (!workStream.isEmpty()) {
+            final Tuple<A, Stream<A>> head = workStream.head();
+            if (p.apply(head._1)) {
+                return new Cons<>(head._1, () -> head._2.tail().filter(p));
+            }
+            workStream = head._2.tail();
+        }
+        return empty();
+    }
+
+    public boolean exists(Function<A, Boolean> p) {
+        return !filter(p).isEmpty();
+    }
+
+    public void forEach(Consumer<A> effect) {
+        Stream<A> workStream = this;
+        while (!workStream.isEmpty()) {
+            final Tuple<A, Stream<A>> head = workStream.head();
+            effect.accept(head._1);
+            workStream = head._2.tail();
+        }
+    }
+
+    public List<A> toList() {
+        List<A> acc = List.list();
+        Stream<A> workStream = this;
+        while (!workStream.isEmpty()) {
+            final Tuple<A, Stream<A>> head = workStream.head();
+            acc = acc.cons(head._1);
+            workStream = head._2.tail();
+        }
+        return acc.reverse();
+    }
+
     private static class Empty<A> extends Stream<A> {
 
         @Override
@@ -29,6 +80,11 @@ public abstract class Stream<A> {
         public Stream<A> take(int n) {
             return this;
         }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
     }
 
     private static class Cons<A> extends Stream<A> {
@@ -68,6 +124,11 @@ public abstract class Stream<A> {
                     ? empty()
                     : cons(head, () -> tail().take(n - 1));
         }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
     }
 
     static <A> Stream<A> cons(Supplier<A> hd, Supplier<Stream<A>> tl) {
@@ -77,4 +138,14 @@ public abstract class Stream<A> {
     public static <A> Stream<A> empty() {
         return EMPTY;
     }
+
+    /**
+     * Builds a stream from a seed, computing the next element and state only when
+     * the tail is requested. The stream ends when f returns an Empty.
+     */
+    public static <A, S> Stream<A> unfold(S z, Function<S, Result<Tuple<A, S>>> f) {
+        return f.apply(z)
+                .map(t -> Stream.<A>cons(() -> t._1, () -> unfold(t._2, f)))
+                .getOrElse(empty());
+    }
 }
\ No newline at end of file
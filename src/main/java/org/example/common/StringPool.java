@@ -0,0 +1,53 @@
+package org.example.common;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, thread safe table of canonical strings. Each string is stored in a
+ * slot chosen by its hash code, and a new string replaces the one in its slot on
+ * collision, so the table never grows and never blocks. Strings longer than
+ * maxLength are returned as is.
+ */
+public class StringPool {
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final int maxLength;
+
+    private StringPool(int capacity, int maxLength) {
+        final int size = Integer.highestOneBit(Math.max(1, capacity - 1) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    public String intern(String s) {
+        if (s == null || s.length() > maxLength) {
+            return s;
+        }
+        final int h = s.hashCode();
+        final int index = (h ^ (h >>> 16)) & mask;
+        final String pooled = slots.get(index);
+        if (s.equals(pooled)) {
+            return pooled;
+        }
+        slots.lazySet(index, s);
+        return s;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public static StringPool of(int capacity, int maxLength) {
+        if (capacity < 1 || maxLength < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Incorrect string pool capacity %s or max length %s", capacity, maxLength));
+        }
+        return new StringPool(capacity, maxLength);
+    }
+
+    public static StringPool of() {
+        return of(4096, 64);
+    }
+}
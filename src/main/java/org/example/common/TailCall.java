@@ -1,5 +1,7 @@
 package org.example.common;
 
+import java.util.ArrayDeque;
+
 public abstract class TailCall<T> {
 
     public abstract TailCall<T> resume();
@@ -11,6 +13,14 @@ public abstract class TailCall<T> {
     private TailCall() {
     }
 
+    public <U> TailCall<U> map(Function<T, U> f) {
+        return flatMap(t -> ret(f.apply(t)));
+    }
+
+    public <U> TailCall<U> flatMap(Function<T, TailCall<U>> f) {
+        return new FlatMap<>(this, f);
+    }
+
     private static class Return<T> extends TailCall<T> {
 
         private final T t;
@@ -45,11 +55,7 @@ public abstract class TailCall<T> {
 
         @Override
         public T eval() {
-            TailCall<T> tailRec = this;
-            while(tailRec.isSuspend()) {
-                tailRec = tailRec.resume();
-            }
-            return tailRec.eval();
+            return run(this);
         }
 
         @Override
@@ -63,11 +69,80 @@ public abstract class TailCall<T> {
         }
     }
 
-    public static <T> Return<T> ret(T t) {
+    private static class FlatMap<A, T> extends TailCall<T> {
+
+        private final TailCall<A> sub;
+        private final Function<A, TailCall<T>> f;
+
+        private FlatMap(TailCall<A> sub, Function<A, TailCall<T>> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+
+        @Override
+        public T eval() {
+            return run(this);
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+
+        /*
+         * Makes one step, re-associating nested flatMaps to the right so that
+         * stepping never recurses.
+         */
+        @Override
+        public TailCall<T> resume() {
+            if (sub instanceof Return) {
+                return f.apply(((Return<A>) sub).t);
+            } else if (sub instanceof Suspend) {
+                return sub.resume().flatMap(f);
+            } else {
+                return resume_((FlatMap<?, A>) sub);
+            }
+        }
+
+        private <B> TailCall<T> resume_(FlatMap<B, A> inner) {
+            return inner.sub.flatMap(b -> inner.f.apply(b).flatMap(f));
+        }
+    }
+
+    /*
+     * Evaluates a computation in a single loop. Continuations of pending flatMaps
+     * are kept on an explicit stack, allocated only when the first flatMap is met,
+     * so plain chains of suspensions run without any allocation besides their own.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T run(TailCall<T> tailCall) {
+        ArrayDeque<Function<Object, TailCall<Object>>> continuations = null;
+        TailCall<Object> current = (TailCall<Object>) tailCall;
+        while (true) {
+            if (current instanceof Suspend) {
+                current = ((Suspend<Object>) current).resume.get();
+            } else if (current instanceof FlatMap) {
+                final FlatMap<Object, Object> flatMap = (FlatMap<Object, Object>) current;
+                if (continuations == null) {
+                    continuations = new ArrayDeque<>();
+                }
+                continuations.push(flatMap.f);
+                current = flatMap.sub;
+            } else {
+                final Object value = ((Return<Object>) current).t;
+                if (continuations == null || continuations.isEmpty()) {
+                    return (T) value;
+                }
+                current = continuations.pop().apply(value);
+            }
+        }
+    }
+
+    public static <T> TailCall<T> ret(T t) {
         return new Return<>(t);
     }
 
-    public static <T> Suspend<T> sus(Supplier<TailCall<T>> s) {
+    public static <T> TailCall<T> sus(Supplier<TailCall<T>> s) {
         return new Suspend<>(s);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import org.example.common.Result;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a CATALOG of PLANT records shaped like plant_catalog.xml, of at least the
+ * given size. The fields of a record are derived from one of cardinality values,
+ * so that there are as many distinct COMMON names, and the given fraction of the
+ * records is invalid: a missing COMMON, a ZONE or a PRICE that is not a number,
+ * or a missing PRICE. The file is written as it is generated, so its size is only
+ * bounded by the disk. Run with:
+ * java -cp target/classes:target/test-classes:jdom2.jar org.example.CatalogGenerator catalog.xml 10G 1000 0.01
+ */
+public class CatalogGenerator
+{
+
+    private final static String[] genera = {
+            "Sanguinaria", "Aquilegia", "Caltha", "Hepatica", "Mertensia", "Dodecatheon",
+            "Trillium", "Anemone", "Phlox", "Viola", "Iris", "Ranúnculus"
+    };
+    private final static String[] species = {
+            "canadensis", "palustris", "americana", "virginica", "meadia", "grandiflorum",
+            "blanda", "divaricata", "pubescens", "versicolor", "acris"
+    };
+    private final static String[] lights = {
+            "Mostly Shady", "Mostly Sunny", "Shade", "Sun", "Sun or Shade"
+    };
+
+    public static void main(String[] args) {
+        final String path = args.length > 0 ? args[0] : "catalog.xml";
+        final long size = args.length > 1 ? parseSize(args[1]) : parseSize("100M");
+        final int cardinality = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        final double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.01;
+        final long start = System.nanoTime();
+        generate(Paths.get(path), size, cardinality, errorRate, 42).forEachOrThrow(records ->
+                System.out.printf("%d records written to %s in %.1f s%n",
+                        records, path, (System.nanoTime() - start) / 1e9));
+    }
+
+    /**
+     * Returns the number of records written. The same seed always produces the
+     * same file.
+     */
+    public static Result<Long> generate(Path path, long size, int cardinality, double errorRate, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            long written = write(out, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<CATALOG>\n");
+            long records = 0;
+            while (written < size) {
+                written += write(out, record(random, cardinality, random.nextDouble() < errorRate));
+                records++;
+            }
+            write(out, "</CATALOG>\n");
+            return Result.success(records);
+        } catch (IOException e) {
+            return Result.failure(String.format("IO error while writing the file %s", path), e);
+        }
+    }
+
+    /*
+     * Accepts a number of bytes, optionally followed by K, M or G.
+     */
+    public static long parseSize(String size) {
+        final char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+        final String digits = Character.isDigit(unit) ? size : size.substring(0, size.length() - 1);
+        final long multiplier = unit == 'K' ? 1L << 10 : unit == 'M' ? 1L << 20 : unit == 'G' ? 1L << 30 : 1;
+        return Long.parseLong(digits) * multiplier;
+    }
+
+    private static String record(SplittableRandom random, int cardinality, boolean invalid) {
+        final int value = random.nextInt(cardinality);
+        final int error = invalid ? random.nextInt(4) : -1;
+        final StringBuilder record = new StringBuilder(256).append("  <PLANT>\n");
+        if (error != 0) {
+            element(record, "COMMON", genera[value % genera.length] + " " + value);
+        }
+        element(record, "BOTANICAL", genera[value % genera.length] + " " + species[value % species.length]);
+        element(record, "ZONE", error == 1 ? "Zone " + (value % 9 + 1) : Integer.toString(value % 9 + 1));
+        element(record, "LIGHT", lights[value % lights.length]);
+        if (error != 3) {
+            element(record, "PRICE", error == 2
+                    ? "n/a"
+                    : String.format("$%d.%02d", value % 10, value % 100));
+        }
+        element(record, "AVAILABILITY", String.format("%02d%02d99", value % 12 + 1, value % 28 + 1));
+        return record.append("  </PLANT>\n").toString();
+    }
+
+    private static void element(StringBuilder record, String name, String text) {
+        record.append("    <").append(name).append('>').append(text).append("</").append(name).append(">\n");
+    }
+
+    private static long write(OutputStream out, String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        return bytes.length;
+    }
+}
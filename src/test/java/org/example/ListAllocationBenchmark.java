@@ -0,0 +1,51 @@
+package org.example;
+
+import org.example.common.List;
+import org.example.common.Supplier;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated and the time taken per element by foldLeft, reverse
+ * and map over a list of a million elements, as reported by the JVM for the
+ * current thread. Run with:
+ * java -cp target/classes:target/test-classes:jdom2.jar org.example.ListAllocationBenchmark
+ */
+public class ListAllocationBenchmark
+{
+
+    private final static int elements = 1_000_000;
+    private final static int rounds = 10;
+
+    /*
+     * Keeps the results reachable, so that the operations are not optimized away.
+     */
+    private static volatile Object sink;
+
+    private final static com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        List<Integer> list = List.list();
+        for (int i = elements; i > 0; i--) {
+            list = list.cons(i);
+        }
+        final List<Integer> numbers = list;
+        for (int round = 0; round < rounds; round++) {
+            measure(round, "foldLeft", () -> numbers.foldLeft(0L, n -> i -> n + i));
+            measure(round, "reverse", numbers::reverse);
+            measure(round, "map", () -> numbers.map(i -> i + 1));
+        }
+    }
+
+    private static void measure(int round, String name, Supplier<Object> operation) {
+        final long id = Thread.currentThread().getId();
+        final long bytes = threads.getThreadAllocatedBytes(id);
+        final long start = System.nanoTime();
+        sink = operation.get();
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threads.getThreadAllocatedBytes(id) - bytes;
+        System.out.printf("round %d: %-8s %.1f bytes/element, %.1f ns/element%n",
+                round, name, (double) allocated / elements, (double) elapsed / elements);
+    }
+}
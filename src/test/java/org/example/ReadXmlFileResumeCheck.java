@@ -0,0 +1,180 @@
+package org.example;
+
+import org.example.common.Executable;
+import org.example.common.List;
+import org.example.common.Result;
+import org.jdom2.Element;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a catalog with the checkpointed readXmlFile while the effect fails every
+ * few batches, resuming after each failure, and checks that the records delivered
+ * are exactly those of a straight-through read, and of the DOM read by
+ * readDocument. The catalog has a byte order mark, a document type declaration
+ * whose internal subset holds ']' in an entity value, a comment and a processing
+ * instruction, namespaces, comments, CDATA sections and processing instructions
+ * holding closing tags, attribute values holding '>', self-closing records,
+ * multibyte and supplementary chars, and children of the root that are not
+ * records. Run with:
+ * java -cp target/classes:target/test-classes:jdom2.jar org.example.ReadXmlFileResumeCheck 10000
+ * where the argument is the number of root children. The exit status is 1 if any
+ * check fails.
+ */
+public class ReadXmlFileResumeCheck
+{
+
+    private final static int[] batchSizes = {1, 7, 100};
+    private final static int[] failEveryBatches = {2, 3, 10};
+
+    public static void main(String[] args) throws IOException {
+        final int children = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        final Path directory = Files.createTempDirectory("resume");
+        final Path catalog = directory.resolve("catalog.xml");
+        final Path checkpoint = directory.resolve("catalog.checkpoint");
+        List<String> failures = List.list();
+        try {
+            writeCatalog(catalog, children);
+            final String doc = new String(Files.readAllBytes(catalog), StandardCharsets.UTF_8).substring(1);
+            final java.util.List<String> expected = ReadXmlFile.readDocument("PLANT", doc)
+                    .flatMap(elements -> List.traverse(elements, ReadXmlFileResumeCheck::describe))
+                    .map(List::toJavaList)
+                    .getOrElse(new java.util.ArrayList<>());
+            System.out.printf("%d records among %d children of the root%n", expected.size(), children);
+
+            for (int batchSize : batchSizes) {
+                final java.util.List<String> straight = read(catalog, checkpoint, batchSize, 0);
+                if (!straight.equals(expected)) {
+                    failures = failures.cons(String.format(
+                            "straight read with batches of %d differs from the DOM read", batchSize));
+                }
+                for (int failEvery : failEveryBatches) {
+                    final java.util.List<String> resumed = read(catalog, checkpoint, batchSize, failEvery);
+                    if (!resumed.equals(expected)) {
+                        failures = failures.cons(String.format(
+                                "read with batches of %d failing every %d batches differs from the DOM read",
+                                batchSize, failEvery));
+                    }
+                    if (Files.exists(checkpoint)) {
+                        failures = failures.cons(String.format(
+                                "checkpoint left behind with batches of %d failing every %d batches",
+                                batchSize, failEvery));
+                    }
+                }
+            }
+
+            try {
+                ReadXmlFile.readXmlFile(() -> FilePath.apply(catalog.toString()),
+                        () -> ElementName.apply("PLANT"),
+                        () -> FilePath.apply(checkpoint.toString()),
+                        0,
+                        ReadXmlFileResumeCheck::describe,
+                        batch -> {}).exec();
+                failures = failures.cons("batch size 0 accepted");
+            } catch (IllegalStateException e) {
+                System.out.println("batch size 0 rejected: " + e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(checkpoint);
+            Files.deleteIfExists(catalog);
+            Files.deleteIfExists(directory);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("OK");
+        } else {
+            failures.reverse().forEach(failure -> System.out.println("FAILED: " + failure));
+            System.exit(1);
+        }
+    }
+
+    /*
+     * Executes the program again after each failure of the effect, which fails
+     * before delivering anything, so the delivered records must come out exactly
+     * once. A failEvery of 0 never fails.
+     */
+    private static java.util.List<String> read(Path catalog, Path checkpoint, int batchSize, int failEvery) {
+        final java.util.List<String> delivered = new java.util.ArrayList<>();
+        final int[] batches = {0};
+        final Executable program = ReadXmlFile.readXmlFile(() -> FilePath.apply(catalog.toString()),
+                () -> ElementName.apply("PLANT"),
+                () -> FilePath.apply(checkpoint.toString()),
+                batchSize,
+                ReadXmlFileResumeCheck::describe,
+                batch -> {
+                    if (failEvery > 0 && ++batches[0] % failEvery == 0) {
+                        throw new IllegalStateException("Injected failure");
+                    }
+                    batch.forEach(delivered::add);
+                });
+        int restarts = 0;
+        while (true) {
+            try {
+                program.exec();
+                break;
+            } catch (IllegalStateException e) {
+                if (!"Injected failure".equals(e.getMessage())) {
+                    System.out.println("read failed: " + e.getMessage());
+                    return new java.util.ArrayList<>();
+                }
+                restarts++;
+            }
+        }
+        System.out.printf("batches of %d, failing every %d batches: %d records, %d restarts%n",
+                batchSize, failEvery, delivered.size(), restarts);
+        return delivered;
+    }
+
+    private static Result<String> describe(Element element) {
+        return Result.success(String.format("%s|%s|%s",
+                element.getAttributeValue("k"), element.getChildText("COMMON"), element.getChildren().size()));
+    }
+
+    private static void writeCatalog(Path path, int children) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+            final StringBuilder doc = new StringBuilder()
+                    .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                    .append("<!DOCTYPE CATALOG [\n  <!ENTITY e \"x>y\">\n  <!ENTITY f 'a]b'>\n")
+                    .append("  <!-- ] ' -->\n  <?pi ] \" ?>\n]>\n")
+                    .append("<!-- <CATALOG><PLANT></PLANT> -->\n")
+                    .append("<CATALOG xmlns:c=\"urn:c\" a='b>c'>\n");
+            for (int i = 0; i < children; i++) {
+                doc.append("  ").append(child(i)).append('\n');
+                if (doc.length() > 1 << 16) {
+                    out.write(doc.toString().getBytes(StandardCharsets.UTF_8));
+                    doc.setLength(0);
+                }
+            }
+            doc.append("</CATALOG>\n");
+            out.write(doc.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String child(int i) {
+        switch (i % 8) {
+            case 0:
+                return String.format("<PLANT k='%d>a'><COMMON>Plant %d é</COMMON></PLANT>", i, i);
+            case 1:
+                return String.format("<PLANT><COMMON><![CDATA[</PLANT> %d ]]></COMMON></PLANT >", i);
+            case 2:
+                return String.format("<PLANT k=\"%d\"/>", i);
+            case 3:
+                return String.format("<PLANT><COMMON>&e;&f; %d €</COMMON><!-- </PLANT> --></PLANT>", i);
+            case 4:
+                return String.format("<c:PLANT><COMMON>Prefixed %d</COMMON></c:PLANT>", i);
+            case 5:
+                return String.format("<OTHER><PLANT><COMMON>Nested %d</COMMON></PLANT></OTHER>", i);
+            case 6:
+                return String.format("<?pi </PLANT> ?><PLANT xmlns:x=\"urn:x\"><x:ZONE>%d</x:ZONE>"
+                        + "<COMMON>Plant %d 😀</COMMON></PLANT>", i, i);
+            default:
+                return String.format("<PLANT xmlns=\"urn:d\"><COMMON>Default %d</COMMON></PLANT>", i);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example;
+
+import org.example.common.Executable;
+import org.example.common.List;
+import org.example.common.Result;
+import org.example.common.Rope;
+import org.example.common.Supplier;
+import org.example.common.TailCall;
+import org.jdom2.Element;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.example.common.TailCall.ret;
+import static org.example.common.TailCall.sus;
+
+/**
+ * Generates a catalog with CatalogGenerator, reads it in batches, and checks that
+ * the heap retained while reading stays under a ceiling, that the throughput stays
+ * over a floor, and that List and TailCall operations on a million elements do not
+ * overflow the stack. The limits only mean something under a fixed heap and stack
+ * size, hence run with:
+ * java -Xmx256m -Xss512k -cp target/classes:target/test-classes:jdom2.jar org.example.ReadXmlFileSoak 1G 64 50000
+ * where the arguments are the size of the file, the maximum retained heap in MB
+ * and the minimum number of records read per second. The exit status is 1 if any
+ * check fails.
+ */
+public class ReadXmlFileSoak
+{
+
+    private final static int batchSize = 1000;
+    private final static int batchesPerSample = 100;
+    private final static int deepLength = 1_000_000;
+
+    private final static MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws IOException {
+        final long size = CatalogGenerator.parseSize(args.length > 0 ? args[0] : "100M");
+        final long maxRetainedMb = args.length > 1 ? Long.parseLong(args[1]) : 64;
+        final long minRecordsPerSecond = args.length > 2 ? Long.parseLong(args[2]) : 50_000;
+        final int cardinality = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        final double errorRate = args.length > 4 ? Double.parseDouble(args[4]) : 0.01;
+
+        List<String> failures = checkStackSafety();
+
+        final Path directory = Files.createTempDirectory("soak");
+        final Path catalog = directory.resolve("catalog.xml");
+        final Path checkpoint = directory.resolve("catalog.checkpoint");
+        try {
+            final long generated = CatalogGenerator.generate(catalog, size, cardinality, errorRate, 42)
+                    .getOrElse(-1L);
+            System.out.printf("generated %d records, %d MB, max heap %d MB%n",
+                    generated, Files.size(catalog) >> 20, memory.getHeapMemoryUsage().getMax() >> 20);
+
+            final long[] counts = new long[3];
+            final Executable program = ReadXmlFile.readXmlFile(() -> FilePath.apply(catalog.toString()),
+                    () -> ElementName.apply("PLANT"),
+                    () -> FilePath.apply(checkpoint.toString()),
+                    batchSize,
+                    element -> Result.success(price(element)),
+                    batch -> {
+                        batch.forEach(price -> counts[price.isEmpty() ? 1 : 0]++);
+                        if (++counts[2] % batchesPerSample == 0) {
+                            sampleRetainedHeap();
+                        }
+                    });
+            final long start = System.nanoTime();
+            program.exec();
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            final long records = counts[0] + counts[1];
+            final long recordsPerSecond = (long) (records / seconds);
+            System.out.printf("read %d records (%d invalid) in %.1f s: %d records/s, %.1f MB/s, max retained heap %d MB%n",
+                    records, counts[1], seconds, recordsPerSecond,
+                    Files.size(catalog) / seconds / (1 << 20), maxRetained >> 20);
+
+            if (records != generated) {
+                failures = failures.cons(String.format("read %d records of %d", records, generated));
+            }
+            if (maxRetained >> 20 > maxRetainedMb) {
+                failures = failures.cons(String.format("retained heap %d MB over %d MB", maxRetained >> 20, maxRetainedMb));
+            }
+            if (recordsPerSecond < minRecordsPerSecond) {
+                failures = failures.cons(String.format("throughput %d records/s under %d records/s",
+                        recordsPerSecond, minRecordsPerSecond));
+            }
+        } finally {
+            Files.deleteIfExists(checkpoint);
+            Files.deleteIfExists(catalog);
+            Files.deleteIfExists(directory);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("OK");
+        } else {
+            failures.reverse().forEach(failure -> System.out.println("FAILED: " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static long maxRetained;
+
+    /*
+     * The heap used after a full collection is what the reader retains.
+     */
+    private static void sampleRetainedHeap() {
+        memory.gc();
+        maxRetained = Math.max(maxRetained, memory.getHeapMemoryUsage().getUsed());
+    }
+
+    private static Result<Double> price(Element element) {
+        return Result.of(element.getChildText("COMMON"))
+                .flatMap(common -> Result.of(element.getChildText("ZONE")))
+                .filter(zone -> zone.chars().allMatch(Character::isDigit), "Incorrect ZONE")
+                .flatMap(zone -> Result.of(element.getChildText("PRICE")))
+                .filter(price -> price.startsWith("$"), "Incorrect PRICE")
+                .map(price -> Double.parseDouble(price.substring(1)));
+    }
+
+    private static List<String> checkStackSafety() {
+        List<Integer> list = List.list();
+        for (int i = deepLength; i > 0; i--) {
+            list = list.cons(i);
+        }
+        final List<Integer> deep = list;
+        Rope<Integer> rope = Rope.empty();
+        for (int i = 1; i <= deepLength; i++) {
+            rope = rope.append(i);
+        }
+        final Rope<Integer> deepRope = rope;
+        return List.<String>list()
+                .cons(check("List.reverse", () -> deep.reverse().length()))
+                .cons(check("List.foldLeft", () -> deep.foldLeft(0L, n -> i -> n + i)))
+                .cons(check("List.foldRight", () -> deep.foldRight(0L, i -> n -> n + i)))
+                .cons(check("List.map", () -> deep.map(i -> i + 1).length()))
+                .cons(check("List.filter", () -> deep.filter(i -> i % 2 == 0).length()))
+                .cons(check("List.flatMap", () -> deep.flatMap(i -> List.list(i, i)).length()))
+                .cons(check("List.takeWhile", () -> deep.takeWhile(i -> i > 0).length()))
+                .cons(check("List.concat", () -> deep.concat(deep).length()))
+                .cons(check("List.toString", () -> deep.toString().length()))
+                .cons(check("List.toStream", () -> deep.toStream().map(i -> i + 1).toList().length()))
+                .cons(check("List.traverse", () -> List.traverse(deep, Result::success).map(List::length)))
+                .cons(check("Rope.toList", () -> deepRope.toList().length()))
+                .cons(check("TailCall.sus", () -> countDown(deepLength).eval()))
+                .cons(check("TailCall.map", () -> count(deepLength).eval()))
+                .cons(check("TailCall.flatMap", () -> flatMapChain(deepLength).eval()))
+                .filter(failure -> !failure.isEmpty())
+                .reverse();
+    }
+
+    private static String check(String name, Supplier<Object> operation) {
+        try {
+            System.out.printf("%s on %d elements: %s%n", name, deepLength, operation.get());
+            return "";
+        } catch (StackOverflowError e) {
+            return name + " overflowed the stack";
+        }
+    }
+
+    private static TailCall<Integer> countDown(int n) {
+        return n == 0 ? ret(0) : sus(() -> countDown(n - 1));
+    }
+
+    private static TailCall<Integer> count(int n) {
+        return n == 0 ? ret(0) : sus(() -> count(n - 1)).map(x -> x + 1);
+    }
+
+    private static TailCall<Integer> flatMapChain(int n) {
+        TailCall<Integer> acc = ret(0);
+        for (int i = 0; i < n; i++) {
+            acc = acc.flatMap(x -> ret(x + 1));
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example;
+
+import org.example.common.List;
+import org.example.common.Result;
+
+/**
+ * Validates a feed of plant records where 30% of the records are invalid and
+ * prints the time taken per record. Run with:
+ * java -cp target/classes:target/test-classes:jdom2.jar org.example.ResultFailureBenchmark
+ */
+public class ResultFailureBenchmark
+{
+
+    private final static int records = 1_000_000;
+    private final static int rounds = 10;
+
+    public static void main(String[] args) {
+        final String[] prices = new String[records];
+        for (int i = 0; i < records; i++) {
+            prices[i] = i % 10 < 3 ? "n/a" : String.format("$%d.%02d", i % 100, i % 97);
+        }
+        final List<String> feed = List.list(prices);
+        for (int round = 0; round < rounds; round++) {
+            final long start = System.nanoTime();
+            final int valid = feed.foldLeft(0, n -> price -> validate(price).isEmpty() ? n : n + 1);
+            final long elapsed = System.nanoTime() - start;
+            System.out.printf("round %d: %d valid of %d, %.1f ns/record%n",
+                    round, valid, records, (double) elapsed / records);
+        }
+    }
+
+    private static Result<Double> validate(String price) {
+        return Result.of(ResultFailureBenchmark::isPrice, price, "Incorrect price: %s")
+                .map(p -> Double.parseDouble(p.substring(1)))
+                .flatMap(p -> p >= 0 ? Result.success(p) : Result.failure("Negative price: " + p));
+    }
+
+    private static Boolean isPrice(String price) {
+        return price.startsWith("$");
+    }
+}